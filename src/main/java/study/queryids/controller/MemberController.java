@@ -4,11 +4,14 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 import study.queryids.dto.MemberSearchCondition;
 import study.queryids.dto.MemberTeamDto;
 import study.queryids.repository.MemberQueryRepository;
+import study.queryids.repository.UnsupportedSortException;
 
 import java.util.List;
 
@@ -28,4 +31,12 @@ public class MemberController {
         return memberQueryRepository.searchPageComplex(condition, pageable);
     }
 
+    /**
+     * 허용되지 않은 정렬 조건 (ex. ?sort=teamId)
+     */
+    @ExceptionHandler(UnsupportedSortException.class)
+    public ResponseEntity<String> badRequest(UnsupportedSortException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
 }
@@ -9,6 +9,7 @@ import java.util.List;
 @Entity
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name"))
 public class Team {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
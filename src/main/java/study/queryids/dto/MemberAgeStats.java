@@ -0,0 +1,21 @@
+package study.queryids.dto;
+
+import lombok.Data;
+
+@Data
+public class MemberAgeStats {
+
+    private long count;
+    private long sum;
+    private Integer min;
+    private Integer max;
+    private Double avg;
+
+    public MemberAgeStats(long count, long sum, Integer min, Integer max) {
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+        this.avg = count > 0 ? (double) sum / count : null;
+    }
+}
@@ -0,0 +1,66 @@
+package study.queryids.profiler;
+
+import java.util.regex.Pattern;
+
+/**
+ * SQL 정규화 (fingerprint)
+ * 문자열/숫자 리터럴은 ? 로, 공백은 하나로, IN (?, ?, ...) 목록은 IN (?) 로 줄이고 소문자로 바꾼다.
+ * 값만 다른 문장이 같은 통계로 묶이도록 하기 위함
+ */
+public final class SqlFingerprint {
+
+    private static final Pattern IN_LIST = Pattern.compile("in \\(\\?(?:, ?\\?)*\\)");
+
+    private SqlFingerprint() {
+    }
+
+    public static String of(String sql) {
+        StringBuilder sb = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char ch = sql.charAt(i);
+            if (ch == '\'') {
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                sb.append('?');
+                i++;
+            } else if (Character.isDigit(ch) && !isIdentifierPart(sb)) {
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                sb.append('?');
+            } else if (Character.isWhitespace(ch)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (sb.length() > 0) {
+                    sb.append(' ');
+                }
+            } else {
+                sb.append(Character.toLowerCase(ch));
+                i++;
+            }
+        }
+
+        String normalized = sb.toString().trim();
+        return IN_LIST.matcher(normalized).replaceAll("in (?)");
+    }
+
+    private static boolean isIdentifierPart(StringBuilder sb) {
+        if (sb.length() == 0) {
+            return false;
+        }
+        char prev = sb.charAt(sb.length() - 1);
+        return Character.isLetterOrDigit(prev) || prev == '_';
+    }
+}
@@ -0,0 +1,41 @@
+package study.queryids.profiler;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/sqlprofile
+ * 누적 실행 시간 기준 상위 N개와 실행 횟수 기준 상위 N개 문장
+ */
+@Component
+@Endpoint(id = "sqlprofile")
+@RequiredArgsConstructor
+public class SqlProfileEndpoint {
+
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 100;
+
+    private final SqlProfiler sqlProfiler;
+
+    @ReadOperation
+    public Map<String, Object> report(@Nullable Integer limit) {
+        int top = limit != null ? Math.max(0, Math.min(limit, MAX_LIMIT)) : DEFAULT_LIMIT;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("sampleRate", sqlProfiler.getSampleRate());
+        report.put("slowest", sqlProfiler.slowest(top));
+        report.put("mostFrequent", sqlProfiler.mostFrequent(top));
+        return report;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sqlProfiler.reset();
+    }
+}
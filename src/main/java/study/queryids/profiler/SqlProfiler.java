@@ -0,0 +1,80 @@
+package study.queryids.profiler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 문장(fingerprint) 단위 SQL 실행 통계
+ * sample-rate 비율만큼의 실행만 측정한다. (1.0 이면 전부, 0 이면 측정 안 함)
+ * fingerprint 종류가 max-statements 를 넘으면 나머지는 OTHER 로 묶는다.
+ */
+@Component
+public class SqlProfiler {
+
+    static final String OTHER = "(other)";
+
+    private final double sampleRate;
+    private final int maxStatements;
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final Map<String, SqlStatementStats> statements = new ConcurrentHashMap<>();
+
+    public SqlProfiler(@Value("${profiler.sql.sample-rate:0.01}") double sampleRate,
+                       @Value("${profiler.sql.max-statements:1000}") int maxStatements) {
+        this.sampleRate = sampleRate;
+        this.maxStatements = maxStatements;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    boolean sample() {
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * 같은 SQL 문자열은 한 번만 정규화한다.
+     */
+    SqlStatementStats statsFor(String sql) {
+        String fingerprint = fingerprints.get(sql);
+        if (fingerprint == null) {
+            fingerprint = SqlFingerprint.of(sql);
+            if (fingerprints.size() < maxStatements * 4) {
+                fingerprints.put(sql, fingerprint);
+            }
+        }
+
+        SqlStatementStats stats = statements.get(fingerprint);
+        if (stats != null) {
+            return stats;
+        }
+        String key = statements.size() < maxStatements ? fingerprint : OTHER;
+        return statements.computeIfAbsent(key, SqlStatementStats::new);
+    }
+
+    public List<SqlStatementReport> slowest(int limit) {
+        return top(Comparator.comparingDouble(SqlStatementReport::getTotalMillis), limit);
+    }
+
+    public List<SqlStatementReport> mostFrequent(int limit) {
+        return top(Comparator.comparingLong(SqlStatementReport::getSampledExecutions), limit);
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    private List<SqlStatementReport> top(Comparator<SqlStatementReport> comparator, int limit) {
+        return statements.values().stream()
+                .map(stats -> stats.toReport(sampleRate))
+                .sorted(comparator.reversed())
+                .limit(limit)
+                .toList();
+    }
+}
@@ -0,0 +1,202 @@
+package study.queryids.profiler;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * DataSource 를 감싸서 Statement 실행 시간을 SqlProfiler 에 기록한다. (p6spy 대체)
+ * 샘플링에서 빠진 실행은 시간 측정이나 ResultSet 래핑 없이 그대로 위임한다.
+ * 프록시는 원본의 인터페이스를 모두 구현하므로 HikariDataSource 의 close() 가 컨텍스트 종료 시 그대로 호출된다.
+ */
+@Component
+@ConditionalOnProperty(name = "profiler.sql.enabled", matchIfMissing = true)
+public class SqlProfilingDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SqlProfiler> sqlProfiler;
+
+    public SqlProfilingDataSourcePostProcessor(ObjectProvider<SqlProfiler> sqlProfiler) {
+        this.sqlProfiler = sqlProfiler;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())) {
+            return wrap(dataSource, sqlProfiler.getObject());
+        }
+        return bean;
+    }
+
+    static DataSource wrap(DataSource dataSource, SqlProfiler profiler) {
+        Class<?>[] interfaces = ClassUtils.getAllInterfacesForClass(dataSource.getClass(),
+                dataSource.getClass().getClassLoader());
+        return (DataSource) Proxy.newProxyInstance(dataSource.getClass().getClassLoader(), interfaces,
+                new DataSourceHandler(dataSource, profiler));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlProfilingDataSourcePostProcessor.class.getClassLoader(),
+                new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private record DataSourceHandler(DataSource target, SqlProfiler profiler) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlProfilingDataSourcePostProcessor.invoke(target, method, args);
+            if (result instanceof Connection connection) {
+                return proxy(Connection.class, new ConnectionHandler(connection, profiler));
+            }
+            return result;
+        }
+    }
+
+    private record ConnectionHandler(Connection target, SqlProfiler profiler) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlProfilingDataSourcePostProcessor.invoke(target, method, args);
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, new StatementHandler(statement, (String) args[0], profiler));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, new StatementHandler(statement, (String) args[0], profiler));
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, new StatementHandler(statement, null, profiler));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+        private final SqlProfiler profiler;
+
+        /**
+         * execute() 가 샘플링된 경우, 이어지는 getResultSet()/getUpdateCount() 결과를 같은 통계에 기록한다.
+         * Statement 는 한 스레드에서만 쓰이므로 동기화하지 않는다.
+         */
+        private SqlStatementStats pending;
+
+        StatementHandler(Statement target, String sql, SqlProfiler profiler) {
+            this.target = target;
+            this.sql = sql;
+            this.profiler = profiler;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (pending != null && ("getResultSet".equals(name) || "getUpdateCount".equals(name))) {
+                return pendingResult(method, args);
+            }
+            if (!name.startsWith("execute")) {
+                return SqlProfilingDataSourcePostProcessor.invoke(target, method, args);
+            }
+
+            pending = null;
+            if (!profiler.sample()) {
+                return SqlProfilingDataSourcePostProcessor.invoke(target, method, args);
+            }
+
+            String executed = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+            if (executed == null) {
+                return SqlProfilingDataSourcePostProcessor.invoke(target, method, args);
+            }
+
+            SqlStatementStats stats = profiler.statsFor(executed);
+            long start = System.nanoTime();
+            Object result = SqlProfilingDataSourcePostProcessor.invoke(target, method, args);
+            long elapsed = System.nanoTime() - start;
+
+            if (result instanceof ResultSet resultSet) {
+                stats.recordQuery(elapsed);
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet, stats));
+            }
+            if (result instanceof Boolean hasResultSet) {
+                // execute(): true 면 결과는 getResultSet(), false 면 getUpdateCount() 로 가져간다
+                if (hasResultSet) {
+                    stats.recordQuery(elapsed);
+                } else {
+                    stats.recordUpdate(elapsed, 0);
+                }
+                pending = stats;
+                return result;
+            }
+            stats.recordUpdate(elapsed, affectedRows(result));
+            return result;
+        }
+
+        /**
+         * getResultSet() 이 돌려준 ResultSet 은 감싸서 fetch row 를 세고, getUpdateCount() 는 영향받은 row 로 더한다.
+         * (getUpdateCount() 가 -1 이면 아직 ResultSet 쪽 결과이므로 pending 을 유지)
+         */
+        private Object pendingResult(Method method, Object[] args) throws Throwable {
+            SqlStatementStats stats = pending;
+            Object result = SqlProfilingDataSourcePostProcessor.invoke(target, method, args);
+            if (result instanceof ResultSet resultSet) {
+                pending = null;
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet, stats));
+            }
+            if (result instanceof Number count && count.longValue() >= 0) {
+                pending = null;
+                stats.addAffectedRows(count.longValue());
+            }
+            return result;
+        }
+
+        private long affectedRows(Object result) {
+            if (result instanceof Number number) {
+                return number.longValue();
+            }
+            if (result instanceof int[] counts) {
+                long sum = 0;
+                for (int count : counts) {
+                    sum += Math.max(count, 0);
+                }
+                return sum;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * next() 가 true 를 돌려준 횟수 = 읽어간 row 수
+     */
+    private record ResultSetHandler(ResultSet target, SqlStatementStats stats) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlProfilingDataSourcePostProcessor.invoke(target, method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                stats.addFetchedRow();
+            }
+            return result;
+        }
+    }
+}
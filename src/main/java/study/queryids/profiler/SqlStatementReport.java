@@ -0,0 +1,31 @@
+package study.queryids.profiler;
+
+import lombok.Data;
+
+/**
+ * sampled* 값은 샘플링된 실행만 센 값이다. estimatedExecutions 는 sampledExecutions / sampleRate 로 환산한 전체 실행 수 추정치
+ */
+@Data
+public class SqlStatementReport {
+
+    private String fingerprint;
+    private long sampledExecutions;
+    private long estimatedExecutions;
+    private double totalMillis;
+    private double avgMillis;
+    private double maxMillis;
+    private long sampledRowsAffected;
+    private long sampledRowsFetched;
+
+    public SqlStatementReport(String fingerprint, double sampleRate, long sampledExecutions, long totalNanos,
+                              long maxNanos, long sampledRowsAffected, long sampledRowsFetched) {
+        this.fingerprint = fingerprint;
+        this.sampledExecutions = sampledExecutions;
+        this.estimatedExecutions = sampleRate > 0 ? Math.round(sampledExecutions / Math.min(sampleRate, 1.0)) : 0;
+        this.totalMillis = totalNanos / 1_000_000.0;
+        this.avgMillis = sampledExecutions > 0 ? totalMillis / sampledExecutions : 0;
+        this.maxMillis = maxNanos / 1_000_000.0;
+        this.sampledRowsAffected = sampledRowsAffected;
+        this.sampledRowsFetched = sampledRowsFetched;
+    }
+}
@@ -0,0 +1,57 @@
+package study.queryids.profiler;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * fingerprint 하나의 누적 통계. 여러 스레드가 동시에 기록하므로 LongAdder 로 잠금 없이 더한다.
+ */
+class SqlStatementStats {
+
+    private final String fingerprint;
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+    private final LongAdder rowsAffected = new LongAdder();
+    private final LongAdder rowsFetched = new LongAdder();
+
+    SqlStatementStats(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * ResultSet 을 돌려준 실행. 읽어간 row 는 addFetchedRow() 로 따로 센다.
+     */
+    void recordQuery(long elapsedNanos) {
+        record(elapsedNanos);
+    }
+
+    void recordUpdate(long elapsedNanos, long affectedRows) {
+        record(elapsedNanos);
+        addAffectedRows(affectedRows);
+    }
+
+    /**
+     * execute() 후 getUpdateCount() 로 가져간 row 수
+     */
+    void addAffectedRows(long affectedRows) {
+        if (affectedRows > 0) {
+            rowsAffected.add(affectedRows);
+        }
+    }
+
+    void addFetchedRow() {
+        rowsFetched.increment();
+    }
+
+    SqlStatementReport toReport(double sampleRate) {
+        return new SqlStatementReport(fingerprint, sampleRate, executions.sum(), totalNanos.sum(), maxNanos.get(),
+                rowsAffected.sum(), rowsFetched.sum());
+    }
+
+    private void record(long elapsedNanos) {
+        executions.increment();
+        totalNanos.add(elapsedNanos);
+        maxNanos.accumulate(elapsedNanos);
+    }
+}
@@ -0,0 +1,433 @@
+package study.queryids.repository;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import study.queryids.dto.MemberAgeStats;
+import study.queryids.dto.MemberSearchCondition;
+import study.queryids.dto.MemberTeamDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 분석 조회용 Member 컬럼 스냅샷
+ * id, age, team, username 을 컬럼별 primitive 배열로 들고 있고 username, team 은 사전(dictionary) 코드로 저장한다.
+ * 기동 후 rebuild() 로 전체 적재하고, refresh-interval 마다 마지막으로 적재한 member_id 이후에 추가된 회원만 붙인다.
+ * member_id(IDENTITY) 는 커밋 순서와 다를 수 있어서 늦게 커밋된 회원이나 수정/삭제는 incremental refresh 로 보이지 않는다.
+ * 이런 변경은 rebuild-interval 마다 도는 전체 rebuild() 에서 반영된다.
+ * snapshot.member.enabled=true 일 때만 동작
+ */
+@Component
+@ConditionalOnProperty(name = "snapshot.member.enabled", havingValue = "true")
+public class MemberColumnarSnapshot {
+
+    static final int NONE = -1;
+
+    /**
+     * row 하나의 내용 해시 (member_id, username, age, team_id, team.name). 어느 컬럼이든 바뀌면 값이 달라진다.
+     * 스냅샷은 적재한 row 들의 합계를 digest 로 들고 있고, MemberSnapshotFileStore 가 같은 식으로 DB 합계와 비교한다.
+     * DB(H2) 에서 계산하므로 적재한 값과 해시가 항상 같은 시점의 row 를 본다.
+     */
+    static final String ROW_DIGEST_SQL = "ora_hash(concat_ws('|',"
+            + " cast(m.member_id as varchar),"
+            + " coalesce(m.username, '<null>'),"
+            + " cast(m.age as varchar),"
+            + " coalesce(cast(m.team_id as varchar), '<null>'),"
+            + " coalesce(t.name, '<null>')))";
+
+    private static final String ROWS_SQL = "select m.member_id, m.username, m.age, t.team_id, t.name, "
+            + ROW_DIGEST_SQL
+            + " from member m left join team t on t.team_id = m.team_id"
+            + " where m.member_id > :after"
+            + " order by m.member_id";
+
+    private final EntityManager em;
+    private volatile Columns columns = Columns.EMPTY;
+    private volatile boolean loaded;
+
+    public MemberColumnarSnapshot(EntityManager em) {
+        this.em = em;
+    }
+
+    /**
+     * 다른 곳(ex. MemberSnapshotFileStore)에서 먼저 올리지 않았으면 기동 시 전체 적재
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void initialLoad() {
+        if (!loaded) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 마지막 member_id 이후 추가된 회원을 스냅샷에 붙인다.
+     * @return 새로 적재한 회원 수
+     */
+    @Scheduled(initialDelayString = "${snapshot.member.refresh-interval:PT1M}",
+            fixedDelayString = "${snapshot.member.refresh-interval:PT1M}")
+    public synchronized int refresh() {
+        Columns current = columns;
+        List<Object[]> rows = fetchRows(current.highWatermark());
+
+        if (!rows.isEmpty()) {
+            columns = append(current, rows);
+        }
+        loaded = true;
+        return rows.size();
+    }
+
+    /**
+     * 전체를 다시 읽어서 교체한다. (incremental refresh 가 놓친 변경 반영)
+     * @return 적재한 회원 수
+     */
+    @Scheduled(initialDelayString = "${snapshot.member.rebuild-interval:PT10M}",
+            fixedDelayString = "${snapshot.member.rebuild-interval:PT10M}")
+    public synchronized int rebuild() {
+        List<Object[]> rows = fetchRows(Long.MIN_VALUE);
+
+        columns = append(Columns.EMPTY, rows);
+        loaded = true;
+        return rows.size();
+    }
+
+    public synchronized void clear() {
+        columns = Columns.EMPTY;
+        loaded = false;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return columns.size;
+    }
+
+    public long highWatermark() {
+        return columns.highWatermark();
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        Columns c = loadedColumns();
+        int[] selection = c.select(condition);
+
+        List<MemberTeamDto> result = new ArrayList<>(selection.length);
+        for (int row : selection) {
+            int teamCode = c.teamCodes[row];
+            int usernameCode = c.usernameCodes[row];
+            result.add(new MemberTeamDto(
+                    c.ids[row],
+                    usernameCode != NONE ? c.usernames[usernameCode] : null,
+                    c.ages[row],
+                    teamCode != NONE ? c.teamIds[teamCode] : null,
+                    teamCode != NONE ? c.teamNames[teamCode] : null
+            ));
+        }
+        return result;
+    }
+
+    /**
+     * 조건에 맞는 회원의 나이 count/sum/min/max/avg
+     */
+    public MemberAgeStats aggregate(MemberSearchCondition condition) {
+        Columns c = loadedColumns();
+        int[] selection = c.select(condition);
+        int[] ages = c.ages;
+
+        long sum = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int row : selection) {
+            int age = ages[row];
+            sum += age;
+            min = Math.min(min, age);
+            max = Math.max(max, age);
+        }
+        return toStats(selection.length, sum, min, max);
+    }
+
+    /**
+     * 팀 이름별 나이 집계 (팀이 없는 회원은 제외, inner join 과 동일)
+     */
+    public Map<String, MemberAgeStats> aggregateByTeam(MemberSearchCondition condition) {
+        Columns c = loadedColumns();
+        int[] selection = c.select(condition);
+        int[] ages = c.ages;
+        int[] teamCodes = c.teamCodes;
+
+        int teamCount = c.teamCount;
+        long[] counts = new long[teamCount];
+        long[] sums = new long[teamCount];
+        int[] mins = new int[teamCount];
+        int[] maxs = new int[teamCount];
+        Arrays.fill(mins, Integer.MAX_VALUE);
+        Arrays.fill(maxs, Integer.MIN_VALUE);
+
+        for (int row : selection) {
+            int teamCode = teamCodes[row];
+            if (teamCode == NONE) {
+                continue;
+            }
+            int age = ages[row];
+            counts[teamCode]++;
+            sums[teamCode] += age;
+            mins[teamCode] = Math.min(mins[teamCode], age);
+            maxs[teamCode] = Math.max(maxs[teamCode], age);
+        }
+
+        // 같은 이름의 팀이 여러 개면 하나로 합친다
+        Map<String, long[]> byName = new LinkedHashMap<>();
+        for (int code = 0; code < teamCount; code++) {
+            if (counts[code] == 0) {
+                continue;
+            }
+            long[] acc = byName.computeIfAbsent(c.teamNames[code],
+                    name -> new long[]{0, 0, Integer.MAX_VALUE, Integer.MIN_VALUE});
+            acc[0] += counts[code];
+            acc[1] += sums[code];
+            acc[2] = Math.min(acc[2], mins[code]);
+            acc[3] = Math.max(acc[3], maxs[code]);
+        }
+
+        Map<String, MemberAgeStats> result = new LinkedHashMap<>();
+        byName.forEach((name, acc) -> result.put(name, toStats(acc[0], acc[1], (int) acc[2], (int) acc[3])));
+        return result;
+    }
+
+    Columns columns() {
+        return columns;
+    }
+
+    synchronized void load(Columns restored) {
+        columns = restored;
+        loaded = true;
+    }
+
+    /**
+     * 아직 한 번도 적재되지 않았으면 빈 결과 대신 예외
+     */
+    private Columns loadedColumns() {
+        if (!loaded) {
+            throw new IllegalStateException("member snapshot is not loaded yet");
+        }
+        return columns;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> fetchRows(long after) {
+        return em.createNativeQuery(ROWS_SQL)
+                .setParameter("after", after)
+                .getResultList();
+    }
+
+    private MemberAgeStats toStats(long count, long sum, int min, int max) {
+        return count > 0
+                ? new MemberAgeStats(count, sum, min, max)
+                : new MemberAgeStats(0, 0, null, null);
+    }
+
+    /**
+     * 새 row 를 뒤에 붙인 Columns 를 만든다.
+     * 배열은 모자랄 때만 2배로 늘리고, 남는 칸이 있으면 그대로 이어 쓴다. (이전 Columns 는 자기 size 까지만 읽으므로 안전)
+     * 사전 맵도 같은 계열의 Columns 끼리 공유하고 새 항목만 추가한다. size 가 0 이면 새 계열로 시작한다.
+     * refresh/rebuild 가 synchronized 라서 쓰는 쪽은 항상 하나다.
+     */
+    private static Columns append(Columns c, List<Object[]> rows) {
+        boolean fresh = c.size == 0;
+        Map<String, Integer> usernameIndex = fresh ? new ConcurrentHashMap<>() : c.usernameIndex;
+        Map<Long, Integer> teamIndex = fresh ? new ConcurrentHashMap<>() : c.teamIndex;
+
+        int size = c.size + rows.size();
+        long[] ids = ensureCapacity(c.ids, size);
+        int[] ages = ensureCapacity(c.ages, size);
+        int[] teamCodes = ensureCapacity(c.teamCodes, size);
+        int[] usernameCodes = ensureCapacity(c.usernameCodes, size);
+
+        String[] usernames = c.usernames;
+        int usernameCount = usernameIndex.size();
+        long[] teamIds = c.teamIds;
+        String[] teamNames = c.teamNames;
+        int teamCount = teamIndex.size();
+
+        long digest = c.digest;
+        int row = c.size;
+        for (Object[] tuple : rows) {
+            String username = (String) tuple[1];
+            Long teamId = tuple[3] != null ? ((Number) tuple[3]).longValue() : null;
+            digest += ((Number) tuple[5]).longValue();
+
+            int usernameCode = NONE;
+            if (username != null) {
+                Integer code = usernameIndex.get(username);
+                if (code == null) {
+                    usernames = ensureCapacity(usernames, usernameCount + 1);
+                    usernames[usernameCount] = username;
+                    code = usernameCount++;
+                    usernameIndex.put(username, code);
+                }
+                usernameCode = code;
+            }
+
+            int teamCode = NONE;
+            if (teamId != null) {
+                Integer code = teamIndex.get(teamId);
+                if (code == null) {
+                    teamIds = ensureCapacity(teamIds, teamCount + 1);
+                    teamNames = ensureCapacity(teamNames, teamCount + 1);
+                    teamIds[teamCount] = teamId;
+                    teamNames[teamCount] = (String) tuple[4];
+                    code = teamCount++;
+                    teamIndex.put(teamId, code);
+                }
+                teamCode = code;
+            }
+
+            ids[row] = ((Number) tuple[0]).longValue();
+            ages[row] = ((Number) tuple[2]).intValue();
+            usernameCodes[row] = usernameCode;
+            teamCodes[row] = teamCode;
+            row++;
+        }
+
+        return new Columns(size, ids, ages, teamCodes, usernameCodes,
+                usernames, usernameCount, usernameIndex,
+                teamIds, teamNames, teamCount, teamIndex,
+                digest);
+    }
+
+    private static long[] ensureCapacity(long[] array, int required) {
+        return array.length >= required ? array : Arrays.copyOf(array, Math.max(required, array.length * 2));
+    }
+
+    private static int[] ensureCapacity(int[] array, int required) {
+        return array.length >= required ? array : Arrays.copyOf(array, Math.max(required, array.length * 2));
+    }
+
+    private static String[] ensureCapacity(String[] array, int required) {
+        return array.length >= required ? array : Arrays.copyOf(array, Math.max(required, array.length * 2));
+    }
+
+    /**
+     * 컬럼 묶음. refresh 할 때마다 새로 만들어 교체한다.
+     * 배열 길이는 capacity 이고 유효한 값은 size/usernameCount/teamCount 까지다.
+     */
+    static final class Columns {
+
+        static final Columns EMPTY = of(0, new long[0], new int[0], new int[0], new int[0],
+                new String[0], new long[0], new String[0], 0L);
+
+        final int size;
+        final long[] ids;
+        final int[] ages;
+        final int[] teamCodes;
+        final int[] usernameCodes;
+        final String[] usernames;
+        final int usernameCount;
+        final long[] teamIds;
+        final String[] teamNames;
+        final int teamCount;
+        /**
+         * 적재한 row 들의 ROW_DIGEST_SQL 합계
+         */
+        final long digest;
+
+        private final Map<String, Integer> usernameIndex;
+        private final Map<Long, Integer> teamIndex;
+
+        Columns(int size, long[] ids, int[] ages, int[] teamCodes, int[] usernameCodes,
+                String[] usernames, int usernameCount, Map<String, Integer> usernameIndex,
+                long[] teamIds, String[] teamNames, int teamCount, Map<Long, Integer> teamIndex,
+                long digest) {
+            this.size = size;
+            this.ids = ids;
+            this.ages = ages;
+            this.teamCodes = teamCodes;
+            this.usernameCodes = usernameCodes;
+            this.usernames = usernames;
+            this.usernameCount = usernameCount;
+            this.usernameIndex = usernameIndex;
+            this.teamIds = teamIds;
+            this.teamNames = teamNames;
+            this.teamCount = teamCount;
+            this.teamIndex = teamIndex;
+            this.digest = digest;
+        }
+
+        /**
+         * 배열이 꽉 찬 상태(ex. 파일에서 읽은 값)로 만들 때. 사전 맵은 여기서 한 번만 만든다.
+         */
+        static Columns of(int size, long[] ids, int[] ages, int[] teamCodes, int[] usernameCodes,
+                          String[] usernames, long[] teamIds, String[] teamNames, long digest) {
+            Map<String, Integer> usernameIndex = new ConcurrentHashMap<>();
+            for (int code = 0; code < usernames.length; code++) {
+                usernameIndex.put(usernames[code], code);
+            }
+            Map<Long, Integer> teamIndex = new ConcurrentHashMap<>();
+            for (int code = 0; code < teamIds.length; code++) {
+                teamIndex.put(teamIds[code], code);
+            }
+            return new Columns(size, ids, ages, teamCodes, usernameCodes,
+                    usernames, usernames.length, usernameIndex,
+                    teamIds, teamNames, teamIds.length, teamIndex,
+                    digest);
+        }
+
+        long highWatermark() {
+            return size == 0 ? 0L : ids[size - 1];
+        }
+
+        /**
+         * 조건에 맞는 row 번호 목록 (selection vector)
+         */
+        int[] select(MemberSearchCondition condition) {
+            int usernameCode = NONE;
+            if (StringUtils.hasText(condition.getUsername())) {
+                Integer code = usernameIndex.get(condition.getUsername());
+                if (code == null) {
+                    return new int[0];
+                }
+                usernameCode = code;
+            }
+
+            boolean[] teamMatch = null;
+            if (StringUtils.hasText(condition.getTeamName())) {
+                teamMatch = new boolean[teamCount];
+                for (int code = 0; code < teamCount; code++) {
+                    teamMatch[code] = condition.getTeamName().equals(teamNames[code]);
+                }
+            }
+
+            int ageGoe = condition.getAgeGoe() != null ? condition.getAgeGoe() : Integer.MIN_VALUE;
+            int ageLoe = condition.getAgeLoe() != null ? condition.getAgeLoe() : Integer.MAX_VALUE;
+
+            int[] selection = new int[size];
+            int count = 0;
+            for (int row = 0; row < size; row++) {
+                int age = ages[row];
+                if (age < ageGoe || age > ageLoe) {
+                    continue;
+                }
+                if (usernameCode != NONE && usernameCodes[row] != usernameCode) {
+                    continue;
+                }
+                if (teamMatch != null && (teamCodes[row] == NONE || !teamMatch[teamCodes[row]])) {
+                    continue;
+                }
+                selection[count++] = row;
+            }
+            return Arrays.copyOf(selection, count);
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package study.queryids.repository;
 
 import com.querydsl.core.QueryResults;
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
@@ -16,7 +19,9 @@ import study.queryids.dto.MemberSearchCondition;
 import study.queryids.dto.MemberTeamDto;
 import study.queryids.dto.QMemberTeamDto;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static study.queryids.domain.QMember.member;
 import static study.queryids.domain.QTeam.team;
@@ -24,6 +29,17 @@ import static study.queryids.domain.QTeam.team;
 @Repository
 public class MemberQueryRepository {
 
+    /**
+     * 정렬 허용 속성 -> 인덱스가 있는 컬럼
+     */
+    private static final Map<String, ComparableExpressionBase<?>> SORTABLE = Map.of(
+            "username", member.username,
+            "age", member.age,
+            "teamName", team.name,
+            "id", member.id,
+            "memberId", member.id
+    );
+
     private final JPAQueryFactory query;
 
     public MemberQueryRepository(EntityManager em) {
@@ -69,7 +85,7 @@ public class MemberQueryRepository {
                         ageLoe(condition.getAgeLoe())
 
                 )
-                .orderBy(member.username.desc())
+                .orderBy(orderBy(pageable.getSort(), member.username.desc()))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
                 .fetchResults();
@@ -104,6 +120,7 @@ public class MemberQueryRepository {
                         ageLoe(condition.getAgeLoe())
 
                 )
+                .orderBy(orderBy(pageable.getSort()))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
                 .fetch();
@@ -123,6 +140,43 @@ public class MemberQueryRepository {
         return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchCount);
     }
 
+    /**
+     * Pageable 정렬을 OrderSpecifier 로 변환 (SORTABLE 에 없는 속성, ignoreCase 정렬은 인덱스를 못 타므로 거부)
+     * 정렬이 없으면 defaults 를 쓰고, 페이지 경계가 흔들리지 않도록 마지막에 member.id 를 붙인다.
+     */
+    private OrderSpecifier<?>[] orderBy(Sort sort, OrderSpecifier<?>... defaults) {
+        List<OrderSpecifier<?>> orders = new ArrayList<>();
+        boolean hasId = false;
+        for (Sort.Order order : sort) {
+            ComparableExpressionBase<?> path = SORTABLE.get(order.getProperty());
+            if (path == null) {
+                throw new UnsupportedSortException("unsupported sort property: " + order.getProperty());
+            }
+            if (order.isIgnoreCase()) {
+                throw new UnsupportedSortException("ignore case sort is not supported: " + order.getProperty());
+            }
+            orders.add(toOrderSpecifier(path, order));
+            hasId |= path == member.id;
+        }
+
+        if (orders.isEmpty()) {
+            orders.addAll(List.of(defaults));
+        }
+        if (!hasId) {
+            orders.add(member.id.asc());
+        }
+        return orders.toArray(new OrderSpecifier<?>[0]);
+    }
+
+    private OrderSpecifier<?> toOrderSpecifier(ComparableExpressionBase<?> path, Sort.Order order) {
+        OrderSpecifier<?> specifier = order.isAscending() ? path.asc() : path.desc();
+        return switch (order.getNullHandling()) {
+            case NULLS_FIRST -> specifier.nullsFirst();
+            case NULLS_LAST -> specifier.nullsLast();
+            default -> specifier;
+        };
+    }
+
     private Predicate ageLoe(Integer ageLoe) {
         return ageLoe != null ? member.age.loe(ageLoe) : null;
     }
@@ -0,0 +1,246 @@
+package study.queryids.repository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import study.queryids.repository.MemberColumnarSnapshot.Columns;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * MemberColumnarSnapshot 을 memory-mapped 파일로 저장/복구
+ * 종료 시 스냅샷을 파일로 남기고, 기동 시 파일을 매핑해서 바로 올린 뒤 이후 추가분만 refresh 한다.
+ * 파일의 member_id high-watermark 까지의 회원 수/최대 id/내용 digest 중 하나라도 DB 와 다르면
+ * 파일은 버리고 처음부터 적재한다. digest 는 DB 에서 row 내용으로 계산하므로 bulk update, 팀 이름 변경도 걸러진다.
+ * snapshot.member.enabled=true 이고 snapshot.member.file 설정이 있을 때만 동작
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("${snapshot.member.enabled:false} and '${snapshot.member.file:}' != ''")
+public class MemberSnapshotFileStore {
+
+    private static final int MAGIC = 0x4D534E50; // "MSNP"
+    private static final int VERSION = 3;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4 + 4 + 4;
+    private static final String DIGEST_SQL = "select count(*), max(m.member_id), sum("
+            + MemberColumnarSnapshot.ROW_DIGEST_SQL + ")"
+            + " from member m left join team t on t.team_id = m.team_id"
+            + " where m.member_id <= :watermark";
+
+    private final MemberColumnarSnapshot snapshot;
+    private final EntityManager em;
+    private final Path file;
+
+    public MemberSnapshotFileStore(MemberColumnarSnapshot snapshot, EntityManager em,
+                                   @Value("${snapshot.member.file}") String file) {
+        this.snapshot = snapshot;
+        this.em = em;
+        this.file = Paths.get(file);
+    }
+
+    /**
+     * MemberColumnarSnapshot.initialLoad 보다 먼저 실행되어야 한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void warmUp() {
+        if (restore()) {
+            snapshot.refresh();
+        }
+    }
+
+    /**
+     * 종료 시점 스냅샷 저장. 아직 적재 전이거나 비어 있으면 기존 파일을 그대로 둔다.
+     */
+    @PreDestroy
+    public void save() {
+        Columns columns = snapshot.columns();
+        if (!snapshot.isLoaded() || columns.size == 0) {
+            return;
+        }
+        try {
+            write(columns, file);
+        } catch (IOException e) {
+            log.warn("member snapshot {} could not be written", file, e);
+        }
+    }
+
+    /**
+     * 파일이 DB 와 일치하면 스냅샷에 올린다.
+     * @return 파일을 사용했으면 true
+     */
+    boolean restore() {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try {
+            Columns restored = read(file);
+            if (isValid(restored)) {
+                snapshot.load(restored);
+                return true;
+            }
+            log.info("member snapshot {} is stale, reloading from database", file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("member snapshot {} could not be read, reloading from database", file, e);
+        }
+        return false;
+    }
+
+    private boolean isValid(Columns restored) {
+        if (restored.size == 0) {
+            return false;
+        }
+        Object[] watermark = (Object[]) em.createNativeQuery(DIGEST_SQL)
+                .setParameter("watermark", restored.highWatermark())
+                .getSingleResult();
+
+        return watermark[0] != null && watermark[1] != null && watermark[2] != null
+                && ((Number) watermark[0]).longValue() == restored.size
+                && ((Number) watermark[1]).longValue() == restored.highWatermark()
+                && ((Number) watermark[2]).longValue() == restored.digest;
+    }
+
+    static void write(Columns c, Path file) throws IOException {
+        byte[][] usernames = encode(c.usernames, c.usernameCount);
+        byte[][] teamNames = encode(c.teamNames, c.teamCount);
+
+        long length = HEADER_BYTES
+                + (long) c.size * (8 + 4 + 4 + 4)
+                + (long) c.teamCount * 8
+                + encodedLength(usernames)
+                + encodedLength(teamNames);
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, CREATE, READ, WRITE, TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            buffer.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(c.highWatermark())
+                    .putLong(c.digest)
+                    .putInt(c.size)
+                    .putInt(usernames.length)
+                    .putInt(teamNames.length);
+
+            for (int row = 0; row < c.size; row++) {
+                buffer.putLong(c.ids[row]);
+            }
+            for (int row = 0; row < c.size; row++) {
+                buffer.putInt(c.ages[row]);
+            }
+            for (int row = 0; row < c.size; row++) {
+                buffer.putInt(c.teamCodes[row]);
+            }
+            for (int row = 0; row < c.size; row++) {
+                buffer.putInt(c.usernameCodes[row]);
+            }
+            for (int code = 0; code < c.teamCount; code++) {
+                buffer.putLong(c.teamIds[code]);
+            }
+            putStrings(buffer, usernames);
+            putStrings(buffer, teamNames);
+            buffer.force();
+        }
+        Files.move(tmp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    static Columns read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IllegalStateException("not a member snapshot file: " + file);
+            }
+            long highWatermark = buffer.getLong();
+            long digest = buffer.getLong();
+            int size = buffer.getInt();
+            int usernameCount = buffer.getInt();
+            int teamCount = buffer.getInt();
+
+            long[] ids = new long[size];
+            int[] ages = new int[size];
+            int[] teamCodes = new int[size];
+            int[] usernameCodes = new int[size];
+            long[] teamIds = new long[teamCount];
+
+            buffer.asLongBuffer().get(ids);
+            buffer.position(buffer.position() + size * 8);
+            buffer.asIntBuffer().get(ages);
+            buffer.position(buffer.position() + size * 4);
+            buffer.asIntBuffer().get(teamCodes);
+            buffer.position(buffer.position() + size * 4);
+            buffer.asIntBuffer().get(usernameCodes);
+            buffer.position(buffer.position() + size * 4);
+            buffer.asLongBuffer().get(teamIds);
+            buffer.position(buffer.position() + teamCount * 8);
+
+            String[] usernames = getStrings(buffer, usernameCount);
+            String[] teamNames = getStrings(buffer, teamCount);
+
+            Columns columns = Columns.of(size, ids, ages, teamCodes, usernameCodes, usernames, teamIds, teamNames,
+                    digest);
+            if (columns.highWatermark() != highWatermark) {
+                throw new IllegalStateException("corrupted member snapshot file: " + file);
+            }
+            return columns;
+        }
+    }
+
+    private static byte[][] encode(String[] values, int count) {
+        byte[][] encoded = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            encoded[i] = values[i] != null ? values[i].getBytes(StandardCharsets.UTF_8) : null;
+        }
+        return encoded;
+    }
+
+    private static long encodedLength(byte[][] values) {
+        long length = 0;
+        for (byte[] value : values) {
+            length += 4 + (value != null ? value.length : 0);
+        }
+        return length;
+    }
+
+    private static void putStrings(MappedByteBuffer buffer, byte[][] values) {
+        for (byte[] value : values) {
+            if (value == null) {
+                buffer.putInt(-1);
+                continue;
+            }
+            buffer.putInt(value.length).put(value);
+        }
+    }
+
+    private static String[] getStrings(MappedByteBuffer buffer, int count) {
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            int length = buffer.getInt();
+            if (length < 0) {
+                continue;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,11 @@
+package study.queryids.repository;
+
+/**
+ * 페이징 정렬 조건이 허용 목록(인덱스 컬럼)에 없을 때
+ */
+public class UnsupportedSortException extends RuntimeException {
+
+    public UnsupportedSortException(String message) {
+        super(message);
+    }
+}
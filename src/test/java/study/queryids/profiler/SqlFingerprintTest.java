@@ -0,0 +1,25 @@
+package study.queryids.profiler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlFingerprintTest {
+
+    @Test
+    void literals() {
+        String a = SqlFingerprint.of("select * from member m1_0 where m1_0.username = 'member1' and m1_0.age >= 10");
+        String b = SqlFingerprint.of("SELECT *\n  FROM member m1_0\n WHERE m1_0.username = 'it''s' AND m1_0.age >= 42");
+
+        assertThat(a).isEqualTo("select * from member m1_0 where m1_0.username = ? and m1_0.age >= ?");
+        assertThat(b).isEqualTo(a);
+    }
+
+    @Test
+    void inList() {
+        assertThat(SqlFingerprint.of("select * from team where team_id in (1, 2, 3)"))
+                .isEqualTo("select * from team where team_id in (?)");
+        assertThat(SqlFingerprint.of("select * from team where team_id in (?,?)"))
+                .isEqualTo("select * from team where team_id in (?)");
+    }
+}
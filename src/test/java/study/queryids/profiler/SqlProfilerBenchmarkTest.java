@@ -0,0 +1,114 @@
+package study.queryids.profiler;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.queryids.QueryIdsApplication;
+import study.queryids.dto.MemberSearchCondition;
+import study.queryids.repository.MemberQueryRepository;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MemberQueryRepository.search 를 프로파일러 없는 컨텍스트와 있는 컨텍스트에서 번갈아 실행해서 오버헤드를 잰다.
+ * 네트워크 영향을 빼기 위해 컨텍스트마다 in-memory H2 를 쓰고, InitMember(local 프로파일)로 회원 100명을 넣는다.
+ * 라운드마다 (프로파일러 시간 / 원본 시간) 비율을 구해서 중앙값으로 판단하므로 라운드 몇 개가 튀어도 결과가 흔들리지 않는다.
+ * ./gradlew benchmark 로만 실행
+ */
+@Tag("benchmark")
+class SqlProfilerBenchmarkTest {
+
+    private static final int WARMUP = 5_000;
+    private static final int ROUNDS = 41;
+    private static final int SEARCHES_PER_ROUND = 500;
+
+    static ConfigurableApplicationContext raw;
+    static ConfigurableApplicationContext sampled;
+    static ConfigurableApplicationContext full;
+
+    @BeforeAll
+    static void start() {
+        raw = start("raw", "--profiler.sql.enabled=false");
+        sampled = start("sampled", "--profiler.sql.sample-rate=0.01");
+        full = start("full", "--profiler.sql.sample-rate=1.0");
+    }
+
+    @AfterAll
+    static void stop() {
+        raw.close();
+        sampled.close();
+        full.close();
+    }
+
+    @Test
+    void memberSearchOverhead() {
+        MemberQueryRepository rawRepository = raw.getBean(MemberQueryRepository.class);
+        MemberQueryRepository sampledRepository = sampled.getBean(MemberQueryRepository.class);
+        MemberQueryRepository fullRepository = full.getBean(MemberQueryRepository.class);
+
+        run(rawRepository, WARMUP);
+        run(sampledRepository, WARMUP);
+        run(fullRepository, WARMUP);
+
+        double[] sampledRatios = new double[ROUNDS];
+        double[] fullRatios = new double[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            // 실행 순서에 따른 편향을 없애려고 라운드마다 순서를 바꾼다
+            long rawNanos;
+            long sampledNanos;
+            if (round % 2 == 0) {
+                rawNanos = run(rawRepository, SEARCHES_PER_ROUND);
+                sampledNanos = run(sampledRepository, SEARCHES_PER_ROUND);
+            } else {
+                sampledNanos = run(sampledRepository, SEARCHES_PER_ROUND);
+                rawNanos = run(rawRepository, SEARCHES_PER_ROUND);
+            }
+            long fullNanos = run(fullRepository, SEARCHES_PER_ROUND);
+
+            sampledRatios[round] = (double) sampledNanos / rawNanos;
+            fullRatios[round] = (double) fullNanos / rawNanos;
+        }
+
+        double sampledOverhead = median(sampledRatios) - 1;
+        double fullOverhead = median(fullRatios) - 1;
+        System.out.printf("member search, median of %d rounds x %d: sample-rate 0.01 %+.2f%%, sample-rate 1.0 %+.2f%%%n",
+                ROUNDS, SEARCHES_PER_ROUND, sampledOverhead * 100, fullOverhead * 100);
+
+        assertThat(sampledOverhead).isLessThan(0.02);
+    }
+
+    private static ConfigurableApplicationContext start(String name, String profilerArg) {
+        return new SpringApplicationBuilder(QueryIdsApplication.class).run(
+                "--spring.profiles.active=local",
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.hibernate.show_sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.org.hibernate.SQL=warn",
+                "--snapshot.member.enabled=false",
+                profilerArg);
+    }
+
+    private static long run(MemberQueryRepository repository, int searches) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(60);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < searches; i++) {
+            repository.search(condition);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,173 @@
+package study.queryids.profiler;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.queryids.domain.Member;
+import study.queryids.domain.Team;
+import study.queryids.dto.MemberSearchCondition;
+import study.queryids.repository.MemberQueryRepository;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Transactional
+class SqlProfilerTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    SqlProfiler sqlProfiler;
+
+    @Autowired
+    SqlProfileEndpoint sqlProfileEndpoint;
+
+    @Autowired
+    MemberQueryRepository memberQueryRepository;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("memberA", 10, teamA));
+        em.persist(new Member("memberB", 20, teamA));
+        em.flush();
+        em.clear();
+
+        sqlProfiler.reset();
+    }
+
+    @Test
+    void search() {
+        memberQueryRepository.search(new MemberSearchCondition());
+        memberQueryRepository.search(new MemberSearchCondition());
+
+        List<SqlStatementReport> reports = sqlProfiler.mostFrequent(10);
+
+        assertThat(reports).anySatisfy(report -> {
+            assertThat(report.getFingerprint()).contains("from member").contains("left join team");
+            assertThat(report.getSampledExecutions()).isEqualTo(2);
+            assertThat(report.getSampledRowsFetched()).isEqualTo(4);
+            assertThat(report.getSampledRowsAffected()).isZero();
+        });
+    }
+
+    @Test
+    void update() {
+        em.persist(new Member("memberC", 30, null));
+        em.flush();
+
+        assertThat(sqlProfiler.mostFrequent(10)).anySatisfy(report -> {
+            assertThat(report.getFingerprint()).startsWith("insert into member");
+            assertThat(report.getSampledRowsAffected()).isEqualTo(1);
+            assertThat(report.getSampledRowsFetched()).isZero();
+        });
+    }
+
+    @Test
+    void endpoint() {
+        memberQueryRepository.search(new MemberSearchCondition());
+
+        Map<String, Object> report = sqlProfileEndpoint.report(5);
+
+        assertThat(report).containsKeys("sampleRate", "slowest", "mostFrequent");
+        assertThat((List<?>) report.get("slowest")).isNotEmpty();
+    }
+
+    @Test
+    void endpointLimit() {
+        memberQueryRepository.search(new MemberSearchCondition());
+
+        Map<String, Object> report = sqlProfileEndpoint.report(-1);
+
+        assertThat((List<?>) report.get("slowest")).isEmpty();
+        assertThat((List<?>) report.get("mostFrequent")).isEmpty();
+    }
+
+    @Test
+    void executeWithResultSet() throws Exception {
+        SqlProfiler profiler = new SqlProfiler(1.0, 10);
+        DataSource wrapped = SqlProfilingDataSourcePostProcessor.wrap(dataSource.unwrap(HikariDataSource.class), profiler);
+
+        try (Connection connection = wrapped.getConnection();
+             Statement statement = connection.createStatement()) {
+            assertThat(statement.execute("select 1 union all select 2")).isTrue();
+            try (ResultSet resultSet = statement.getResultSet()) {
+                while (resultSet.next()) {
+                    resultSet.getInt(1);
+                }
+            }
+        }
+
+        assertThat(profiler.mostFrequent(10)).singleElement().satisfies(report -> {
+            assertThat(report.getSampledExecutions()).isEqualTo(1);
+            assertThat(report.getSampledRowsFetched()).isEqualTo(2);
+            assertThat(report.getSampledRowsAffected()).isZero();
+        });
+    }
+
+    @Test
+    void estimatedExecutions() {
+        SqlProfiler profiler = new SqlProfiler(0.25, 10);
+
+        profiler.statsFor("select * from member").recordQuery(10);
+
+        assertThat(profiler.mostFrequent(10)).singleElement().satisfies(report -> {
+            assertThat(report.getSampledExecutions()).isEqualTo(1);
+            assertThat(report.getEstimatedExecutions()).isEqualTo(4);
+        });
+    }
+
+    @Test
+    void closeable() {
+        assertThat(dataSource).isInstanceOf(Closeable.class);
+    }
+
+    @Test
+    void sampleRateZero() throws Exception {
+        SqlProfiler profiler = new SqlProfiler(0, 10);
+        DataSource wrapped = SqlProfilingDataSourcePostProcessor.wrap(dataSource.unwrap(HikariDataSource.class), profiler);
+
+        try (Connection connection = wrapped.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select 1");
+             ResultSet resultSet = statement.executeQuery()) {
+            assertThat(resultSet.next()).isTrue();
+        }
+
+        assertThat(profiler.mostFrequent(10)).isEmpty();
+    }
+
+    @Test
+    void overflow() {
+        SqlProfiler profiler = new SqlProfiler(1.0, 1);
+
+        profiler.statsFor("select * from member where member_id = 1").recordQuery(10);
+        profiler.statsFor("select * from team where team_id = 1").recordQuery(10);
+        profiler.statsFor("select * from member where member_id = 2").recordQuery(10);
+
+        assertThat(profiler.mostFrequent(10))
+                .extracting("fingerprint", "sampledExecutions")
+                .containsExactlyInAnyOrder(
+                        tuple("select * from member where member_id = ?", 2L),
+                        tuple(SqlProfiler.OTHER, 1L));
+    }
+}
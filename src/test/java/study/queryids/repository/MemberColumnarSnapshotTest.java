@@ -0,0 +1,116 @@
+package study.queryids.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.queryids.domain.Member;
+import study.queryids.domain.Team;
+import study.queryids.dto.MemberAgeStats;
+import study.queryids.dto.MemberSearchCondition;
+import study.queryids.dto.MemberTeamDto;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class MemberColumnarSnapshotTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberColumnarSnapshot snapshot;
+
+    @BeforeEach
+    void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("memberA", 10, teamA));
+        em.persist(new Member("memberB", 20, teamA));
+        em.persist(new Member("memberC", 30, teamB));
+        em.persist(new Member("memberD", 40, teamB));
+
+        em.flush();
+        em.clear();
+
+        snapshot.clear();
+        snapshot.refresh();
+    }
+
+    @Test
+    void aggregation() {
+        MemberAgeStats stats = snapshot.aggregate(new MemberSearchCondition());
+
+        assertThat(stats.getCount()).isEqualTo(4);
+        assertThat(stats.getSum()).isEqualTo(100);
+        assertThat(stats.getMin()).isEqualTo(10);
+        assertThat(stats.getMax()).isEqualTo(40);
+        assertThat(stats.getAvg()).isEqualTo(25);
+    }
+
+    @Test
+    void group() {
+        Map<String, MemberAgeStats> byTeam = snapshot.aggregateByTeam(new MemberSearchCondition());
+
+        assertThat(byTeam.get("teamA").getAvg()).isEqualTo(15);
+        assertThat(byTeam.get("teamB").getAvg()).isEqualTo(35);
+    }
+
+    @Test
+    void search() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(35);
+        condition.setTeamName("teamB");
+
+        List<MemberTeamDto> result = snapshot.search(condition);
+
+        assertThat(result).extracting("username").containsExactly("memberC");
+    }
+
+    @Test
+    void incrementalRefresh() {
+        Team teamC = new Team("teamC");
+        em.persist(teamC);
+        em.persist(new Member("memberE", 50, teamC));
+        em.flush();
+
+        assertThat(snapshot.refresh()).isEqualTo(1);
+        assertThat(snapshot.size()).isEqualTo(5);
+        assertThat(snapshot.aggregate(new MemberSearchCondition()).getMax()).isEqualTo(50);
+    }
+
+    @Test
+    void rebuild() {
+        Member memberA = em.createQuery("select m from Member m where m.username = 'memberA'", Member.class)
+                .getSingleResult();
+        memberA.setAge(60);
+        em.flush();
+
+        assertThat(snapshot.refresh()).isEqualTo(0);
+        assertThat(snapshot.aggregate(new MemberSearchCondition()).getMax()).isEqualTo(40);
+
+        assertThat(snapshot.rebuild()).isEqualTo(4);
+        assertThat(snapshot.aggregate(new MemberSearchCondition()).getMax()).isEqualTo(60);
+    }
+
+    @Test
+    void notLoaded() {
+        snapshot.clear();
+
+        assertThat(snapshot.isLoaded()).isFalse();
+        assertThatThrownBy(() -> snapshot.aggregate(new MemberSearchCondition()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
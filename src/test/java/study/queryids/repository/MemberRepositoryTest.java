@@ -7,12 +7,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import study.queryids.domain.Member;
 import study.queryids.domain.Team;
 import study.queryids.dto.MemberSearchCondition;
 import study.queryids.dto.MemberTeamDto;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
 @SpringBootTest
 class MemberRepositoryTest {
 
@@ -53,4 +57,45 @@ class MemberRepositoryTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    @Transactional
+    void sortedPage() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("memberA", 10, teamA));
+        em.persist(new Member("memberB", 20, teamA));
+        em.persist(new Member("memberC", 30, teamB));
+        em.persist(new Member("memberD", 30, teamB));
+
+        em.flush();
+        em.clear();
+
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Order.desc("age"), Sort.Order.asc("teamName")));
+        Page<MemberTeamDto> results = memberRepository.searchPageComplex(new MemberSearchCondition(), pageRequest);
+
+        assertThat(results.getContent())
+                .extracting("username")
+                .containsExactly("memberC", "memberD", "memberB");
+    }
+
+    @Test
+    void unsupportedSort() {
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by("teamId"));
+
+        assertThatThrownBy(() -> memberRepository.searchPageSimple(new MemberSearchCondition(), pageRequest))
+                .isInstanceOf(UnsupportedSortException.class);
+    }
+
+    @Test
+    void ignoreCaseSort() {
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Order.asc("username").ignoreCase()));
+
+        assertThatThrownBy(() -> memberRepository.searchPageComplex(new MemberSearchCondition(), pageRequest))
+                .isInstanceOf(UnsupportedSortException.class);
+    }
+
+}
@@ -0,0 +1,153 @@
+package study.queryids.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import study.queryids.domain.Member;
+import study.queryids.domain.Team;
+import study.queryids.dto.MemberSearchCondition;
+import study.queryids.repository.MemberColumnarSnapshot.Columns;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.queryids.domain.QMember.member;
+
+@SpringBootTest
+@Transactional
+class MemberSnapshotFileStoreTest {
+
+    @TempDir
+    static Path dir;
+
+    @DynamicPropertySource
+    static void snapshotFile(DynamicPropertyRegistry registry) {
+        registry.add("snapshot.member.file", () -> dir.resolve("member.snapshot").toString());
+    }
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberColumnarSnapshot snapshot;
+
+    @Autowired
+    MemberSnapshotFileStore store;
+
+    Team teamA;
+    Member memberA;
+
+    @BeforeEach
+    void before() {
+        teamA = new Team("teamA");
+        em.persist(teamA);
+
+        memberA = new Member("memberA", 10, teamA);
+        em.persist(memberA);
+        em.persist(new Member("memberB", 20, teamA));
+        em.persist(new Member("memberC", 30, null));
+        em.flush();
+
+        snapshot.rebuild();
+        store.save();
+        snapshot.clear();
+    }
+
+    @Test
+    void restore() {
+        assertThat(store.restore()).isTrue();
+        assertThat(snapshot.size()).isEqualTo(3);
+        assertThat(snapshot.aggregate(new MemberSearchCondition()).getSum()).isEqualTo(60);
+
+        em.persist(new Member("memberD", 40, teamA));
+        em.flush();
+
+        assertThat(snapshot.refresh()).isEqualTo(1);
+        assertThat(snapshot.size()).isEqualTo(4);
+    }
+
+    @Test
+    void rejectDeleted() {
+        em.remove(memberA);
+        em.flush();
+
+        assertThat(store.restore()).isFalse();
+        assertThat(snapshot.isLoaded()).isFalse();
+    }
+
+    @Test
+    void rejectUpdated() {
+        memberA.setAge(11);
+        em.flush();
+
+        assertThat(store.restore()).isFalse();
+    }
+
+    @Test
+    void rejectBulkUpdated() {
+        new JPAQueryFactory(em).update(member)
+                .set(member.username, "비회원")
+                .where(member.age.lt(15))
+                .execute();
+
+        assertThat(store.restore()).isFalse();
+    }
+
+    @Test
+    void rejectTeamRenamed() {
+        teamA.setName("teamZ");
+        em.flush();
+
+        assertThat(store.restore()).isFalse();
+    }
+
+    @Test
+    void skipEmptySave() throws Exception {
+        Path file = dir.resolve("member.snapshot");
+        long written = Files.size(file);
+
+        store.save();
+
+        assertThat(Files.size(file)).isEqualTo(written);
+        assertThat(store.restore()).isTrue();
+    }
+
+    @Test
+    void writeAndRead() throws Exception {
+        Columns columns = Columns.of(3,
+                new long[]{1L, 2L, 5L},
+                new int[]{10, 20, 30},
+                new int[]{0, 1, MemberColumnarSnapshot.NONE},
+                new int[]{0, 1, MemberColumnarSnapshot.NONE},
+                new String[]{"memberA", "회원B"},
+                new long[]{7L, 8L},
+                new String[]{"teamA", null},
+                42L);
+        Path file = dir.resolve("codec.snapshot");
+
+        MemberSnapshotFileStore.write(columns, file);
+        Columns read = MemberSnapshotFileStore.read(file);
+
+        assertThat(read.size).isEqualTo(3);
+        assertThat(read.highWatermark()).isEqualTo(5L);
+        assertThat(read.digest).isEqualTo(42L);
+        assertThat(read.ids).containsExactly(1L, 2L, 5L);
+        assertThat(read.ages).containsExactly(10, 20, 30);
+        assertThat(read.teamIds).containsExactly(7L, 8L);
+        assertThat(read.usernames).containsExactly("memberA", "회원B");
+        assertThat(read.teamNames).containsExactly("teamA", null);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        assertThat(read.select(condition)).containsExactly(0);
+    }
+}